@@ -45,13 +45,68 @@ public class Calculator {
      * @throws IllegalArgumentException if the input expression is invalid.
      */
     public String evaluateExpression(String input) {
-        // Tokenize the input expression
-        List<String> tokens = InputParser.tokenize(input);
-        // Parse the tokenized expression into a list of objects
-        List<Object> expression = InputParser.parseExpression(tokens);
-        // Convert the infix expression to postfix notation
-        List<Object> postfixExpression = infixToPostfix(expression);
+        // Keep the end of every phase for the slow expression log, 0 meaning not reached
+        long start = System.nanoTime();
+        long parsed = 0;
+        long compiled = 0;
+        boolean failed = true;
+        try {
+            // Tokenize and parse the input expression into a list of objects
+            List<Object> expression = InputParser.parse(input);
+            String variable = InputParser.assignedVariable(input);
+            parsed = System.nanoTime();
 
+            // Convert the infix expression to postfix notation
+            ExpressionEvents.CompileEvent compileEvent = new ExpressionEvents.CompileEvent();
+            compileEvent.begin();
+            List<Object> postfixExpression = null;
+            try {
+                postfixExpression = infixToPostfix(expression);
+            } finally {
+                compileEvent.commit(input, expression, postfixExpression == null);
+            }
+            compiled = System.nanoTime();
+
+            // Evaluate the postfix expression
+            ExpressionEvents.EvaluateEvent evaluateEvent = new ExpressionEvents.EvaluateEvent();
+            evaluateEvent.begin();
+            try {
+                String result = evaluatePostfix(postfixExpression);
+                if (variable != null) {
+                    // If the input is an assignment, store the value and return it with the variable name
+                    Variable.VariableEntry entry = new Variable().new VariableEntry(variable, Double.parseDouble(result));
+                    result = entry.getName() + "|" + entry.getValue();
+                }
+                failed = false;
+                return result;
+            } finally {
+                evaluateEvent.commit(input, expression, failed);
+            }
+        } finally {
+            SlowExpressionLog.record(input, start, parsed, compiled, System.nanoTime(), failed);
+        }
+    }
+
+    /**
+     * Evaluates a parsed expression without emitting events or recording it in the slow expression log.
+     * It is used for values nested in another evaluation, which already accounts for them.
+     *
+     * @param expression the parsed infix expression to evaluate.
+     * @return the result of the evaluation.
+     * @throws IllegalArgumentException if the expression is invalid.
+     */
+    String evaluate(List<Object> expression) {
+        return evaluatePostfix(infixToPostfix(expression));
+    }
+
+    /**
+     * Evaluates an expression in postfix notation and returns the result.
+     *
+     * @param postfixExpression the postfix expression to evaluate.
+     * @return the result of the evaluation.
+     * @throws IllegalArgumentException if the expression is invalid.
+     */
+    private String evaluatePostfix(List<Object> postfixExpression) {
         // Initialize a stack to hold operands
         ArrayList<Double> stack = new ArrayList<>();
         // Initialize the result to 0
@@ -71,19 +126,21 @@ public class Calculator {
 
             } else if (token instanceof String operator) {
                 // If the token is an operator, calculate the result using the last two operands on the stack
-                if (operations.containsKey(operator)) {
+                if (operations.containsKey(operator) && stack.size() >= 2) {
                     Operation operation = operations.get(operator);
                     result = operation.calculate(stack.get(stack.size()-2), stack.get(stack.size()-1));
                     stack.remove(stack.size()-1);
                     stack.remove(stack.size()-1);
                     stack.add(result);
                 } else {
-                    // If the operator is not recognized, throw an exception with a message indicating an invalid expression
-                    throw new IllegalArgumentException("Invalid expression");
+                    // If the operator is not recognized or lacks operands, throw an exception indicating an invalid expression
+                    throw new InvalidInputException(
+                            new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, -1, "operand", operator));
                 }
             } else {
                 // If the token is not a number, variable, or operator, throw an exception with a message indicating an invalid token
-                throw new IllegalArgumentException("Invalid token: " + token);
+                throw new InvalidInputException(
+                        new Diagnostic(Diagnostic.Kind.INVALID_TOKEN, -1, null, String.valueOf(token)));
             }
         }
 
@@ -121,15 +178,14 @@ public class Calculator {
                     // If the symbol is a right parenthesis, pop operators off the stack
                     // and add them to the output list until a left parenthesis is found
                     Object next = stack.peek();
-                    while (true){
-                        try {
-                            assert next != null;
-                            if (next.equals("(")) break;
-                            result.add(stack.pop());
-                            next = stack.peek();
-                        }catch (AssertionError e){
-                            throw new IllegalArgumentException("Invalid expression");
+                    while (!"(".equals(next)){
+                        // If the stack runs out before a left parenthesis, the parentheses are unbalanced
+                        if (next == null) {
+                            throw new InvalidInputException(
+                                    new Diagnostic(Diagnostic.Kind.UNBALANCED_PARENTHESES, -1, null, ")"));
                         }
+                        result.add(stack.pop());
+                        next = stack.peek();
                     }
                     stack.pop(); // Remove the left parenthesis from the stack
                 } else if (operations.containsKey(str)) {
@@ -143,11 +199,13 @@ public class Calculator {
                     stack.push(str);
                 } else {
                     // If the symbol is none of the above, it is invalid
-                    throw new IllegalArgumentException("Invalid expression");
+                    throw new InvalidInputException(
+                            new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, -1, null, str));
                 }
             } else {
                 // If the symbol is none of the above, it is invalid
-                throw new IllegalArgumentException("Invalid token: " + symbol);
+                throw new InvalidInputException(
+                        new Diagnostic(Diagnostic.Kind.INVALID_TOKEN, -1, null, String.valueOf(symbol)));
             }
         }
 
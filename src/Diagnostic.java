@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023 Beaudelaire Tsoungui Nzodoumkouo. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under My consent.
+ *
+ * This code is shared on GitHub in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY OF FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Please contact Me at +1 438 509 3906
+ * or LinkedIn: https://www.linkedin.com/in/beaudelaire-tsoungui-nzodoumkouo-809744231
+ * if you need additional information or have any questions.
+ */
+
+package calculator;
+
+/**
+ * This class describes why an input is invalid: the kind of error, where it is, and what was expected there.
+ * It is returned by {@link InputParser#validate(String)} so invalid input can be reported without throwing.
+ */
+public final class Diagnostic {
+
+    /**
+     * The kinds of errors found in an input.
+     */
+    public enum Kind {
+        INVALID_ASSIGNMENT,
+        INVALID_IDENTIFIER,
+        UNKNOWN_VARIABLE,
+        INVALID_EXPRESSION,
+        UNBALANCED_PARENTHESES,
+        INVALID_TOKEN
+    }
+
+    private final Kind kind;
+    private final int offset;
+    private final String expected;
+    private final String token;
+
+    /**
+     * Constructor to create a new Diagnostic.
+     * @param kind the kind of error
+     * @param offset the offset of the error in the input, or -1 if it is unknown
+     * @param expected a description of what was expected at the offset, or null
+     * @param token the offending text, or null
+     */
+    Diagnostic(Kind kind, int offset, String expected, String token) {
+        this.kind = kind;
+        this.offset = offset;
+        this.expected = expected;
+        this.token = token;
+    }
+
+    /**
+     * Getter method to retrieve the kind of error.
+     * @return The kind of error.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Getter method to retrieve the character offset of the error in the input.
+     * @return The offset of the error, or -1 if it is unknown.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Getter method to retrieve what was expected at the offset, such as "operand", "operator" or ")".
+     * @return What was expected, or null if anything else was.
+     */
+    public String getExpected() {
+        return expected;
+    }
+
+    /**
+     * Getter method to retrieve the offending text.
+     * @return The offending text, or null if there is none.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Returns the message printed to the user for this error.
+     * @return the error message
+     */
+    public String getMessage() {
+        return switch (kind) {
+            case INVALID_ASSIGNMENT -> "Invalid assignment";
+            case INVALID_IDENTIFIER -> "Invalid identifier";
+            case UNKNOWN_VARIABLE -> "Unknown variable '" + token + '\'';
+            case INVALID_EXPRESSION, UNBALANCED_PARENTHESES -> "Invalid expression";
+            case INVALID_TOKEN -> "Invalid token: " + token;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return kind + " at " + offset + (expected == null ? "" : ", expected " + expected)
+                + (token == null ? "" : ": " + token);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2023 Beaudelaire Tsoungui Nzodoumkouo. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under My consent.
+ *
+ * This code is shared on GitHub in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY OF FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Please contact Me at +1 438 509 3906
+ * or LinkedIn: https://www.linkedin.com/in/beaudelaire-tsoungui-nzodoumkouo-809744231
+ * if you need additional information or have any questions.
+ */
+
+package calculator;
+
+import jdk.jfr.*;
+
+import java.util.List;
+
+/**
+ * This class holds the JDK Flight Recorder events emitted while evaluating an expression.
+ * The events are only filled in and committed when a recording enables them, so they cost nothing otherwise.
+ */
+final class ExpressionEvents {
+
+    private ExpressionEvents() {
+    }
+
+    /**
+     * The fields shared by every phase of an evaluation.
+     */
+    @Category("Calculator")
+    @StackTrace(false)
+    abstract static class PhaseEvent extends Event {
+        @Label("Expression Length")
+        @Description("Number of characters of the input expression")
+        int expressionLength;
+
+        @Label("Token Count")
+        @Description("Number of tokens of the parsed expression")
+        int tokenCount;
+
+        @Label("Depth")
+        @Description("Deepest nesting of parentheses in the expression")
+        int depth;
+
+        @Label("Failed")
+        @Description("Whether the phase threw an exception")
+        boolean failed;
+
+        /**
+         * Ends the event, fills in its fields and commits it, if the recording keeps it.
+         * @param input the input expression
+         * @param tokens the tokens of the expression, or null if the phase failed before producing them
+         * @param failed whether the phase threw an exception
+         */
+        void commit(String input, List<?> tokens, boolean failed) {
+            end();
+            if (!shouldCommit()) return;
+            this.expressionLength = input.length();
+            this.tokenCount = tokens == null ? 0 : tokens.size();
+            this.depth = tokens == null ? 0 : depth(tokens);
+            this.failed = failed;
+            commit();
+        }
+    }
+
+    /**
+     * Emitted by {@link InputParser} while tokenizing and parsing an expression.
+     */
+    @Name("calculator.Parse")
+    @Label("Parse Expression")
+    static final class ParseEvent extends PhaseEvent {
+    }
+
+    /**
+     * Emitted by {@link Calculator} while converting an expression to postfix notation.
+     */
+    @Name("calculator.Compile")
+    @Label("Compile Expression")
+    static final class CompileEvent extends PhaseEvent {
+    }
+
+    /**
+     * Emitted by {@link Calculator} while evaluating the postfix notation of an expression.
+     */
+    @Name("calculator.Evaluate")
+    @Label("Evaluate Expression")
+    static final class EvaluateEvent extends PhaseEvent {
+    }
+
+    /**
+     * Returns the deepest nesting of parentheses in a list of tokens.
+     * @param tokens the tokens of the expression
+     * @return the deepest nesting of parentheses
+     */
+    static int depth(List<?> tokens) {
+        int depth = 0;
+        int max = 0;
+        for (Object token : tokens) {
+            if ("(".equals(token)) {
+                max = Math.max(max, ++depth);
+            } else if (")".equals(token)) {
+                depth--;
+            }
+        }
+        return max;
+    }
+}
@@ -25,6 +25,191 @@ import java.util.regex.Pattern;
  */
 public class InputParser {
 
+    /** A shared calculator used to evaluate assigned expressions; it holds no mutable state. */
+    private static final Calculator CALCULATOR = new Calculator();
+    /** Matches a number literal, optionally signed as in an assigned value. */
+    private static final Pattern NUMBER = Pattern.compile("[+-]?(\\d+\\.?\\d*|\\.\\d+)");
+    /** Matches a run of '+' and '-' signs, which counts as a single operator. */
+    private static final Pattern SIGN_RUN = Pattern.compile("[+-]{2,}");
+
+    /**
+     * Tokenizes and parses an input string into an expression.
+     * For an assignment, returns the expression of the assigned value, see {@link #assignedVariable(String)}.
+     *
+     * @param input the input expression
+     * @return a list of objects representing the parsed expression
+     * @throws IllegalArgumentException if the input is invalid or contains unknown variables
+     */
+    public static List<Object> parse(String input) {
+        ExpressionEvents.ParseEvent event = new ExpressionEvents.ParseEvent();
+        event.begin();
+        List<String> tokens = null;
+        boolean failed = true;
+        try {
+            Diagnostic diagnostic = validate(input);
+            if (diagnostic != null) {
+                throw new InvalidInputException(diagnostic);
+            }
+            tokens = tokenize(input);
+            if (tokens.get(0).equals("newVariable!")) {
+                tokens = tokenizeValue(tokens.get(2));
+            }
+            List<Object> expression = parseExpression(tokens);
+            failed = false;
+            return expression;
+        } finally {
+            event.commit(input, tokens, failed);
+        }
+    }
+
+    /**
+     * Returns the name of the variable a valid input assigns.
+     *
+     * @param input the input expression, already validated
+     * @return the name of the assigned variable, or null if the input is not an assignment
+     */
+    static String assignedVariable(String input) {
+        int equals = input.indexOf('=');
+        return equals < 0 ? null : input.substring(0, equals).strip();
+    }
+
+    /**
+     * Tokenizes the value of an assignment, keeping a signed number as a single token.
+     *
+     * @param value the assigned value, as returned by {@link #tokenize(String)}
+     * @return a list of tokens
+     */
+    private static List<String> tokenizeValue(String value) {
+        return NUMBER.matcher(value).matches() ? List.of(value) : tokenize(value);
+    }
+
+    /**
+     * Checks whether an input can be evaluated, without throwing.
+     * An assignment needs a valid identifier and a number or a valid expression as its value.
+     * An expression alternates operands and operators, has balanced parentheses and only uses known variables.
+     *
+     * @param input the input expression
+     * @return the diagnostic of the first error found, or null if the input is valid
+     */
+    public static Diagnostic validate(String input) {
+        int equals = input.indexOf('=');
+        if (equals < 0) {
+            return validateExpression(input, 0);
+        }
+
+        int repeated = input.indexOf("==");
+        if (repeated >= 0) {
+            return new Diagnostic(Diagnostic.Kind.INVALID_ASSIGNMENT, repeated, null, "==");
+        }
+        String name = input.substring(0, equals).strip();
+        if (!Variable.isValidIdentifier(name)) {
+            int offset = name.isEmpty() ? equals : input.indexOf(name);
+            return new Diagnostic(Diagnostic.Kind.INVALID_IDENTIFIER, offset, "identifier", name);
+        }
+        int second = input.indexOf('=', equals + 1);
+        if (second >= 0) {
+            return new Diagnostic(Diagnostic.Kind.INVALID_ASSIGNMENT, second, null, "=");
+        }
+        String value = input.substring(equals + 1).strip();
+        if (value.isEmpty()) {
+            return new Diagnostic(Diagnostic.Kind.INVALID_ASSIGNMENT, input.length(), "operand", null);
+        }
+        if (NUMBER.matcher(value).matches()) {
+            return null;
+        }
+        return validateExpression(input, equals + 1);
+    }
+
+    /**
+     * Checks the expression found from an offset to the end of the input, the same way it is tokenized and parsed.
+     *
+     * @param input the input expression
+     * @param from the offset the expression starts at
+     * @return the diagnostic of the first error found, or null if the expression is valid
+     */
+    private static Diagnostic validateExpression(String input, int from) {
+        // Whether an operand (a number, a variable or a left parenthesis) is expected next
+        boolean operand = true;
+        int depth = 0;
+        int i = from;
+        while (i < input.length()) {
+            char c = input.charAt(i);
+            int start = i++;
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (isDigit(c) || (c == '.' && i < input.length() && isDigit(input.charAt(i)))) {
+                // A number such as 2, 2.5, 2. or .5
+                if (c != '.') {
+                    while (i < input.length() && isDigit(input.charAt(i))) i++;
+                    if (i < input.length() && input.charAt(i) == '.') i++;
+                }
+                while (i < input.length() && isDigit(input.charAt(i))) i++;
+                if (!operand) {
+                    return new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, start, "operator", input.substring(start, i));
+                }
+                operand = false;
+            } else if (isWordStart(c)) {
+                // A variable name
+                while (i < input.length() && (isWordStart(input.charAt(i)) || isDigit(input.charAt(i)))) i++;
+                String name = input.substring(start, i);
+                if (!operand) {
+                    return new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, start, "operator", name);
+                }
+                if (name.chars().anyMatch(InputParser::isDigit)) {
+                    return new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, start, null, name);
+                }
+                if (!Variable.isValidIdentifier(name)) {
+                    return new Diagnostic(Diagnostic.Kind.INVALID_IDENTIFIER, start, "identifier", name);
+                }
+                if (!Variable.doesVariableExist(name)) {
+                    return new Diagnostic(Diagnostic.Kind.UNKNOWN_VARIABLE, start, null, name);
+                }
+                operand = false;
+            } else if (c == '+' || c == '-' || c == '*' || c == '/' || c == '^') {
+                // An operator, where a run of '+' and '-' signs counts as one
+                if (c == '+' || c == '-') {
+                    while (i < input.length() && (input.charAt(i) == '+' || input.charAt(i) == '-')) i++;
+                }
+                if (operand) {
+                    return new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, start, "operand", input.substring(start, i));
+                }
+                operand = true;
+            } else if (c == '(') {
+                if (!operand) {
+                    return new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, start, "operator", "(");
+                }
+                depth++;
+            } else if (c == ')') {
+                if (operand) {
+                    return new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, start, "operand", ")");
+                }
+                if (depth == 0) {
+                    return new Diagnostic(Diagnostic.Kind.UNBALANCED_PARENTHESES, start, null, ")");
+                }
+                depth--;
+            } else {
+                return new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, start, null, String.valueOf(c));
+            }
+        }
+
+        if (operand) {
+            return new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, input.length(), "operand", null);
+        }
+        if (depth > 0) {
+            return new Diagnostic(Diagnostic.Kind.UNBALANCED_PARENTHESES, input.length(), ")", null);
+        }
+        return null;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
     /**
      * Tokenizes input string and returns a list of tokens.
      * If the input is a variable declaration, it returns a special list with "newVariable!" as the first element.
@@ -38,7 +223,8 @@ public class InputParser {
 
             if (input.matches(".*={2,}.*")) {
                 //throw new IllegalArgumentException("Invalid assignment: your expression has more than one '='");
-                throw new IllegalArgumentException("Invalid assignment");
+                throw new InvalidInputException(
+                        new Diagnostic(Diagnostic.Kind.INVALID_ASSIGNMENT, input.indexOf("=="), null, "=="));
             }
 
             String[] variable = input.split("=", 2);
@@ -47,7 +233,8 @@ public class InputParser {
 
             if (!Variable.isValidIdentifier(varName)) {
                 //throw new IllegalArgumentException("Invalid identifier name: " + varName);
-                throw new IllegalArgumentException("Invalid identifier");
+                throw new InvalidInputException(new Diagnostic(Diagnostic.Kind.INVALID_IDENTIFIER,
+                        varName.isEmpty() ? 0 : input.indexOf(varName), "identifier", varName));
             }
 
             //if the value contain letters or might be an expression
@@ -57,10 +244,6 @@ public class InputParser {
 
             return List.of("newVariable!", varName, varValue);
         } else { // expression
-            String signRepetitionChecker = "([+\\-/*])\\1+";
-            String evenNumberOfMinusChecker = "(-{2})+";
-            String plusMinusChecker = "([+]-)|(-[+])";
-
             //******************** to be removed *******************/
             String multiplicationSequenceCheck = ".*\\*{2,}.*";
             String divisionSequenceCheck = ".*/{2,}.*";
@@ -68,18 +251,20 @@ public class InputParser {
             // If the input contains more than one consecutive multiplication or division operator
             if (input.matches(multiplicationSequenceCheck) || input.matches(divisionSequenceCheck)) {
                 // throw new IllegalArgumentException("Invalid expression");
-                throw new IllegalArgumentException("Invalid expression");
+                String sequence = input.contains("**") ? "**" : "//";
+                throw new InvalidInputException(
+                        new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, input.indexOf(sequence), null, sequence));
             }
 
             //******************************************************/
 
-            String newString = input.replaceAll(evenNumberOfMinusChecker, "+")
-                    .replaceAll(signRepetitionChecker, "$1")
-                    .replaceAll(plusMinusChecker, "-")
+            // Fold every run of signs into one operator, '-' if it holds an odd number of '-' and '+' otherwise
+            String newString = SIGN_RUN.matcher(input)
+                    .replaceAll(run -> run.group().chars().filter(c -> c == '-').count() % 2 == 0 ? "+" : "-")
                     .strip();
 
             String[] patterns = {
-                    "\\d+(\\.\\d+)?", // Matches numbers
+                    "\\d+\\.?\\d*|\\.\\d+", // Matches numbers
                     "[a-zA-Z_]\\w*", // Matches variable names
                     "\\(", // Matches left parentheses
                     "\\)", // Matches right parentheses
@@ -112,28 +297,24 @@ public class InputParser {
         if (tokens.get(0).equals("newVariable!")) {
             String varName = tokens.get(1);
             String varValue = tokens.get(2);
-            double value;
-            // If the variable value is a number, parse it as a double
-            try {
-                value = Double.parseDouble(varValue);
-            } catch (NumberFormatException e) {
-                // If the variable value is an expression, evaluate it using the calculator
-                value = Double.parseDouble(new Calculator().evaluateExpression(varValue));
-            }
+            // Evaluate the variable value with the calculator, without recording it as an evaluation of its own
+            double value = Double.parseDouble(CALCULATOR.evaluate(parseExpression(tokenizeValue(varValue))));
             expression.add(variable.new VariableEntry(varName,value));
         } else {
             for (String token : tokens) {
                 if (token.matches(".*\\d+(\\.\\d+)?.*")) {
-                    try {
-                        expression.add(Double.parseDouble(token));
-                    } catch (IllegalArgumentException e) {
-                        throw new IllegalArgumentException("Invalid expression");
+                    if (!NUMBER.matcher(token).matches()) {
+                        throw new InvalidInputException(
+                                new Diagnostic(Diagnostic.Kind.INVALID_EXPRESSION, -1, null, token));
                     }
+                    expression.add(Double.parseDouble(token));
                 } else if (token.matches(".*[a-zA-Z].*")) {
                     if (!Variable.isValidIdentifier(token)) {
-                        throw new IllegalArgumentException("Invalid identifier");
+                        throw new InvalidInputException(
+                                new Diagnostic(Diagnostic.Kind.INVALID_IDENTIFIER, -1, "identifier", token));
                     } else if (!Variable.doesVariableExist(token)) {
-                        throw new IllegalArgumentException("Unknown variable '" + token + '\'');
+                        throw new InvalidInputException(
+                                new Diagnostic(Diagnostic.Kind.UNKNOWN_VARIABLE, -1, null, token));
                     } else {
                         expression.add(Variable.getVariableValue(token));
                     }
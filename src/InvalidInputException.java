@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2023 Beaudelaire Tsoungui Nzodoumkouo. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under My consent.
+ *
+ * This code is shared on GitHub in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY OF FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Please contact Me at +1 438 509 3906
+ * or LinkedIn: https://www.linkedin.com/in/beaudelaire-tsoungui-nzodoumkouo-809744231
+ * if you need additional information or have any questions.
+ */
+
+package calculator;
+
+/**
+ * This exception is thrown when an input cannot be evaluated. It carries the {@link Diagnostic} of the error.
+ * Invalid input is common, so the exception does not fill in its stack trace.
+ */
+public class InvalidInputException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Diagnostic diagnostic;
+
+    /**
+     * Constructs a new InvalidInputException from the diagnostic of the error.
+     * @param diagnostic the diagnostic of the error
+     */
+    public InvalidInputException(Diagnostic diagnostic) {
+        super(diagnostic.getMessage());
+        this.diagnostic = diagnostic;
+    }
+
+    /**
+     * Getter method to retrieve the diagnostic of the error.
+     * @return The diagnostic of the error.
+     */
+    public Diagnostic getDiagnostic() {
+        return diagnostic;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
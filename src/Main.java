@@ -15,6 +15,8 @@
 
 package calculator;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
@@ -26,9 +28,20 @@ public class Main {
     /**
      * The main method of the program.
      * Reads input from the user, evaluates expressions, and prints the results.
-     * @param args command line arguments (unused)
+     * If a script file is given, runs it with the {@link ScriptRunner} instead, exiting with status 1 if it cannot be read.
+     * @param args command line arguments, optionally the path of a script to run
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            try {
+                new ScriptRunner().run(Path.of(args[0]));
+            } catch (IOException e) {
+                System.out.println("Error: cannot read script " + args[0]);
+                System.exit(1);
+            }
+            return;
+        }
+
         // create objects for variable storage and command handling
         Command command = new Command();
 
@@ -56,14 +69,7 @@ public class Main {
 
             try {
                 // evaluate expression and print result
-                String result = evaluateExpression(input);
-                if (result.matches(".*\\|.*")){
-                    String varName = result.split("\\|",2)[0];
-                    String varValue = result.split("\\|",2)[1];
-                   System.out.printf("%s ==> %s%n",varName,varValue);
-                    continue;
-                }
-                System.out.println("Answer: " + result);
+                printResult(evaluateExpression(input));
             } catch (IllegalArgumentException e) {
                 // print error message if expression is invalid
                  System.out.println("Error: " + e.getMessage());
@@ -82,4 +88,18 @@ public class Main {
         Calculator calculator = new Calculator();
         return calculator.evaluateExpression(expression);
     }
+
+    /**
+     * Prints the result of an evaluation, either as an answer or as a variable assignment.
+     * @param result the result returned by the Calculator
+     */
+    static void printResult(String result) {
+        if (result.matches(".*\\|.*")){
+            String varName = result.split("\\|",2)[0];
+            String varValue = result.split("\\|",2)[1];
+            System.out.printf("%s ==> %s%n",varName,varValue);
+            return;
+        }
+        System.out.println("Answer: " + result);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2023 Beaudelaire Tsoungui Nzodoumkouo. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under My consent.
+ *
+ * This code is shared on GitHub in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY OF FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Please contact Me at +1 438 509 3906
+ * or LinkedIn: https://www.linkedin.com/in/beaudelaire-tsoungui-nzodoumkouo-809744231
+ * if you need additional information or have any questions.
+ */
+
+package calculator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The ScriptRunner class evaluates a whole script of expressions and assignments at once.
+ * It builds the read/write dependency graph between the lines and evaluates independent lines
+ * concurrently in topological waves, while printing the results exactly as sequential execution would.
+ */
+public class ScriptRunner {
+    /** Matches every word that may name a variable on the right-hand side of a line. */
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-zA-Z_]\\w*");
+    /** The fewest statements handed over to a thread at once, since a single statement takes only microseconds. */
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    /** The calculator shared by all statements; it holds no mutable state. */
+    private final Calculator calculator = new Calculator();
+    /** The number of threads used to evaluate a wave. */
+    private final int threads;
+
+    /**
+     * Constructs a new ScriptRunner using one thread per available processor.
+     */
+    public ScriptRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new ScriptRunner using the given number of threads.
+     *
+     * @param threads the number of threads used to evaluate independent statements.
+     * @throws IllegalArgumentException if the number of threads is not positive.
+     */
+    public ScriptRunner(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Reads a script file and runs it.
+     *
+     * @param script the path of the script to run.
+     * @throws IOException if the script cannot be read.
+     */
+    public void run(Path script) throws IOException {
+        run(Files.readAllLines(script));
+    }
+
+    /**
+     * Runs the lines of a script and prints their results in order.
+     * Commands are handled like in interactive mode and "/exit" ends the script.
+     *
+     * @param lines the lines of the script.
+     */
+    public void run(List<String> lines) {
+        Command command = new Command();
+
+        // Keep every line up to the first "/exit", and schedule the ones that are not commands
+        List<String> script = new ArrayList<>();
+        List<Statement> statements = new ArrayList<>();
+        for (String line : lines) {
+            script.add(line);
+            if (command.isCommand(line)) {
+                if (command.is("/exit")) break;
+            } else if (!line.isBlank()) {
+                statements.add(new Statement(script.size() - 1, line));
+            }
+        }
+
+        evaluate(schedule(statements));
+
+        // Print the results in the order of the script
+        Statement[] byLine = new Statement[script.size()];
+        for (Statement statement : statements) {
+            byLine[statement.line] = statement;
+        }
+        for (int i = 0; i < script.size(); i++) {
+            if (byLine[i] != null) {
+                byLine[i].print();
+            } else if (command.isCommand(script.get(i))) {
+                command.getMessage();
+            }
+        }
+    }
+
+    /**
+     * Groups statements into waves so that every statement only depends on statements of earlier waves.
+     * A statement depends on the last previous writer of each variable it reads (read after write),
+     * on the last previous writer of the variable it assigns (write after write),
+     * and on every previous reader of that variable since its last write (write after read).
+     *
+     * @param statements the statements in script order.
+     * @return the waves of statements, in execution order.
+     */
+    private List<List<Statement>> schedule(List<Statement> statements) {
+        // The wave of the last statement that assigned each variable
+        Map<String, Integer> lastWrite = new HashMap<>();
+        // The latest wave that read each variable since it was last assigned
+        Map<String, Integer> lastRead = new HashMap<>();
+        List<List<Statement>> waves = new ArrayList<>();
+
+        for (Statement statement : statements) {
+            int wave = 0;
+            for (String name : statement.reads) {
+                wave = Math.max(wave, lastWrite.getOrDefault(name, -1) + 1);
+            }
+            if (statement.write != null) {
+                wave = Math.max(wave, lastWrite.getOrDefault(statement.write, -1) + 1);
+                wave = Math.max(wave, lastRead.getOrDefault(statement.write, -1) + 1);
+            }
+
+            for (String name : statement.reads) {
+                lastRead.merge(name, wave, Math::max);
+            }
+            if (statement.write != null) {
+                lastWrite.put(statement.write, wave);
+                lastRead.remove(statement.write);
+            }
+
+            if (wave == waves.size()) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(wave).add(statement);
+        }
+        return waves;
+    }
+
+    /**
+     * Evaluates the waves one after the other, running the statements of a wave concurrently.
+     * A wave is split into at most one chunk per thread, and the calling thread evaluates the first chunk itself.
+     *
+     * @param waves the waves of statements, in execution order.
+     */
+    private void evaluate(List<List<Statement>> waves) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (List<Statement> wave : waves) {
+                int chunks = Math.min(threads, wave.size() / MIN_CHUNK_SIZE);
+                if (chunks <= 1) {
+                    // Not worth handing the work over to another thread
+                    wave.forEach(Statement::evaluate);
+                    continue;
+                }
+                int chunkSize = (wave.size() + chunks - 1) / chunks;
+                List<Future<?>> futures = new ArrayList<>();
+                for (int from = chunkSize; from < wave.size(); from += chunkSize) {
+                    List<Statement> chunk = wave.subList(from, Math.min(from + chunkSize, wave.size()));
+                    futures.add(executor.submit(() -> chunk.forEach(Statement::evaluate)));
+                }
+                wave.subList(0, chunkSize).forEach(Statement::evaluate);
+                for (Future<?> future : futures) {
+                    await(future);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for a statement to be evaluated, rethrowing any unexpected failure on the calling thread.
+     *
+     * @param future the pending evaluation.
+     */
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Script interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * This inner class represents a line of the script along with the variables it reads and writes.
+     */
+    private class Statement {
+        private final int line;
+        private final String input;
+        private final String write;
+        private final Set<String> reads = new HashSet<>();
+        private String result;
+        private IllegalArgumentException error;
+
+        /**
+         * Constructor to create a new Statement from a line of the script.
+         * The variables are found the same way {@link InputParser#tokenize(String)} finds them,
+         * erring on the side of extra dependencies for lines that turn out to be invalid.
+         *
+         * @param line the index of the line in the script.
+         * @param input the text of the line.
+         */
+        Statement(int line, String input) {
+            this.line = line;
+            this.input = input;
+
+            String value = input;
+            String name = null;
+            if (input.matches(".*=+.*")) {
+                String[] variable = input.split("=", 2);
+                if (!input.matches(".*={2,}.*") && Variable.isValidIdentifier(variable[0].strip())) {
+                    name = variable[0].strip();
+                }
+                value = variable[1];
+            }
+            this.write = name;
+
+            Matcher matcher = IDENTIFIER.matcher(value);
+            while (matcher.find()) {
+                reads.add(matcher.group());
+            }
+        }
+
+        /**
+         * Evaluates the line, keeping its result or error message for printing.
+         */
+        void evaluate() {
+            try {
+                result = calculator.evaluateExpression(input);
+            } catch (IllegalArgumentException e) {
+                error = e;
+            }
+        }
+
+        /**
+         * Prints the result of the line the same way interactive mode does.
+         */
+        void print() {
+            if (error != null) {
+                System.out.println("Error: " + error.getMessage());
+            } else {
+                Main.printResult(result);
+            }
+        }
+    }
+}
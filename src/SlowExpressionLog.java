@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023 Beaudelaire Tsoungui Nzodoumkouo. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under My consent.
+ *
+ * This code is shared on GitHub in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY OF FITNESS FOR A PARTICULAR PURPOSE.
+ *
+ * Please contact Me at +1 438 509 3906
+ * or LinkedIn: https://www.linkedin.com/in/beaudelaire-tsoungui-nzodoumkouo-809744231
+ * if you need additional information or have any questions.
+ */
+
+package calculator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class logs the expressions whose evaluation takes longer than a threshold, so latency outliers can be
+ * reproduced offline. Each entry holds the truncated input and the time spent in every phase.
+ * It is configured with the system properties below and keeps at most a given number of entries per second.
+ * <ul>
+ *     <li>{@code calculator.slowlog.thresholdMillis}: the threshold, a negative value disables the log (default -1)</li>
+ *     <li>{@code calculator.slowlog.perSecond}: the number of entries logged per second at most (default 10)</li>
+ *     <li>{@code calculator.slowlog.maxLength}: the number of characters of the input kept (default 200)</li>
+ * </ul>
+ */
+final class SlowExpressionLog {
+    /** The threshold in nanoseconds, or a negative value if the log is disabled. */
+    private static final long THRESHOLD_NANOS = Math.max(-1,
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("calculator.slowlog.thresholdMillis", -1)));
+    /** The number of entries logged per second at most. */
+    private static final int PER_SECOND = Integer.getInteger("calculator.slowlog.perSecond", 10);
+    /** The number of characters of the input kept in an entry. */
+    private static final int MAX_LENGTH = Integer.getInteger("calculator.slowlog.maxLength", 200);
+
+    /** The start of the current one second window, guarded by the class lock. */
+    private static long windowStart = System.nanoTime();
+    /** The number of entries logged in the current window, guarded by the class lock. */
+    private static int windowCount;
+
+    private SlowExpressionLog() {
+    }
+
+    /**
+     * Records an evaluation, and logs it if it was slow.
+     * A phase that was not reached because the evaluation failed has an end time of 0.
+     *
+     * @param input the input expression
+     * @param start the time the evaluation started at
+     * @param parsed the time the parse phase ended at
+     * @param compiled the time the compile phase ended at
+     * @param end the time the evaluation ended at
+     * @param failed whether the evaluation threw an exception
+     */
+    static void record(String input, long start, long parsed, long compiled, long end, boolean failed) {
+        if (THRESHOLD_NANOS < 0 || end - start < THRESHOLD_NANOS || !acquire(end)) return;
+
+        long parse = (parsed == 0 ? end : parsed) - start;
+        long compile = parsed == 0 ? 0 : (compiled == 0 ? end : compiled) - parsed;
+        long evaluate = compiled == 0 ? 0 : end - compiled;
+        String shown = input.length() > MAX_LENGTH
+                ? input.substring(0, MAX_LENGTH) + "... (" + input.length() + " chars)"
+                : input;
+
+        System.err.printf("Slow expression: %d us (parse %d us, compile %d us, evaluate %d us)%s: %s%n",
+                micros(end - start), micros(parse), micros(compile), micros(evaluate),
+                failed ? " failed" : "", shown);
+    }
+
+    /**
+     * Takes one of the entries allowed in the current one second window.
+     * @param now the current time
+     * @return true if the entry may be logged, false otherwise
+     */
+    private static synchronized boolean acquire(long now) {
+        if (now - windowStart >= TimeUnit.SECONDS.toNanos(1)) {
+            windowStart = now;
+            windowCount = 0;
+        }
+        if (windowCount >= PER_SECOND) return false;
+        windowCount++;
+        return true;
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -15,8 +15,8 @@
 
 package calculator;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class represents a Variable, which is used to store and manage variables in the calculator program.
@@ -25,8 +25,9 @@ public class Variable {
 
     /**
      * A map to store all the variables and their corresponding values.
+     * It is concurrent because the {@link ScriptRunner} assigns independent variables from several threads.
      */
-    private static Map<String, Double> variables = new HashMap<>();
+    private static final Map<String, Double> variables = new ConcurrentHashMap<>();
 
     /**
      * Determines if a variable already exist.